@@ -0,0 +1,85 @@
+package optional;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * Extracts the motor serials of many cars at once, equivalent to running
+ * {@code car.getMotor().flatMap(Motor::getSerial).orElse(defaultSerial)} on
+ * each car.
+ */
+public final class SerialBatch {
+
+	// below this size the fork/join overhead costs more than it saves
+	static final int PARALLEL_THRESHOLD = 8192;
+
+	private SerialBatch() {
+	}
+
+	/**
+	 * Fills {@code serials[i]} with the serial of {@code cars.get(i)}, or with
+	 * {@code defaultSerial} when the car has no motor or the motor has no serial.
+	 * Bit {@code i} of {@code missing} is set in the latter case and cleared
+	 * otherwise; bits beyond {@code cars.size()} are left untouched.
+	 */
+	public static void extract(List<Car> cars, String defaultSerial, String[] serials, BitSet missing) {
+		Objects.requireNonNull(cars);
+		if (cars instanceof RandomAccess) {
+			run(cars::get, cars.size(), defaultSerial, serials, missing);
+		} else {
+			extract(cars.toArray(new Car[0]), defaultSerial, serials, missing);
+		}
+	}
+
+	/**
+	 * Same as {@link #extract(List, String, String[], BitSet)} for an array of
+	 * cars.
+	 */
+	public static void extract(Car[] cars, String defaultSerial, String[] serials, BitSet missing) {
+		Objects.requireNonNull(cars);
+		run(i -> cars[i], cars.length, defaultSerial, serials, missing);
+	}
+
+	private static void run(CarSource cars, int size, String defaultSerial, String[] serials, BitSet missing) {
+		Objects.requireNonNull(serials);
+		Objects.requireNonNull(missing);
+		if (serials.length < size) {
+			throw new IllegalArgumentException("serials length " + serials.length + " is less than " + size);
+		}
+
+		// each task owns whole 64-bit words, so no two tasks write the same word
+		long[] words = new long[(size + Long.SIZE - 1) / Long.SIZE];
+		IntStream range = IntStream.range(0, words.length);
+		if (size >= PARALLEL_THRESHOLD) {
+			range = range.parallel();
+		}
+		range.forEach(word -> {
+			int from = word * Long.SIZE;
+			int to = Math.min(from + Long.SIZE, size);
+			long bits = 0L;
+			for (int i = from; i < to; i++) {
+				Car car = cars.get(i);
+				Motor motor = car.getMotor().orElse(null);
+				String serial = motor == null ? null : motor.getSerial().orElse(null);
+				if (serial == null) {
+					serials[i] = defaultSerial;
+					bits |= 1L << (i - from);
+				} else {
+					serials[i] = serial;
+				}
+			}
+			words[word] = bits;
+		});
+
+		missing.clear(0, size);
+		missing.or(BitSet.valueOf(words));
+	}
+
+	@FunctionalInterface
+	private interface CarSource {
+		Car get(int index);
+	}
+}
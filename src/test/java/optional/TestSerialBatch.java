@@ -0,0 +1,96 @@
+package optional;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TestSerialBatch {
+
+	private final String DEFAULT_TEXT = "default";
+	private final String TEST_TEXT = "test text";
+
+	@Test
+	void extractArrayTest() {
+		Car[] cars = { new Car(new Motor(TEST_TEXT)), new Car(null), new Car(new Motor(null)) };
+		String[] serials = new String[cars.length];
+		BitSet missing = new BitSet();
+
+		SerialBatch.extract(cars, DEFAULT_TEXT, serials, missing);
+
+		assertAll(() -> assertArrayEquals(new String[] { TEST_TEXT, DEFAULT_TEXT, DEFAULT_TEXT }, serials),
+				() -> assertFalse(missing.get(0)), () -> assertTrue(missing.get(1)),
+				() -> assertTrue(missing.get(2)));
+	}
+
+	@Test
+	void extractListTest() {
+		List<Car> cars = new LinkedList<>(Arrays.asList(new Car(null), new Car(new Motor(TEST_TEXT))));
+		String[] serials = new String[cars.size()];
+		BitSet missing = new BitSet();
+		// stale bits inside the range are cleared, bits outside are kept
+		missing.set(1);
+		missing.set(5);
+
+		SerialBatch.extract(cars, DEFAULT_TEXT, serials, missing);
+
+		assertAll(() -> assertArrayEquals(new String[] { DEFAULT_TEXT, TEST_TEXT }, serials),
+				() -> assertTrue(missing.get(0)), () -> assertFalse(missing.get(1)),
+				() -> assertTrue(missing.get(5)));
+	}
+
+	@Test
+	void extractMatchesOptionalChainTest() {
+		// large enough to take the parallel path and not a multiple of 64
+		int size = SerialBatch.PARALLEL_THRESHOLD * 4 + 37;
+		Car[] cars = new Car[size];
+		for (int i = 0; i < size; i++) {
+			switch (i % 3) {
+			case 0:
+				cars[i] = new Car(new Motor("serial-" + i));
+				break;
+			case 1:
+				cars[i] = new Car(null);
+				break;
+			default:
+				cars[i] = new Car(new Motor(null));
+			}
+		}
+		String[] serials = new String[size];
+		BitSet missing = new BitSet();
+
+		SerialBatch.extract(Arrays.asList(cars), DEFAULT_TEXT, serials, missing);
+
+		for (int i = 0; i < size; i++) {
+			String expected = cars[i].getMotor().flatMap(Motor::getSerial).orElse(DEFAULT_TEXT);
+			boolean absent = !cars[i].getMotor().flatMap(Motor::getSerial).isPresent();
+			assertEquals(expected, serials[i]);
+			assertEquals(absent, missing.get(i));
+		}
+		assertEquals(size - (size + 2) / 3, missing.cardinality());
+	}
+
+	@Test
+	void extractInvalidArgumentsTest() {
+		Car[] cars = { new Car(null), null };
+
+		// serials array too short for the input
+		assertThrows(IllegalArgumentException.class, () -> {
+			SerialBatch.extract(cars, DEFAULT_TEXT, new String[1], new BitSet());
+		});
+
+		// a null car fails just like the Optional chain would
+		assertThrows(NullPointerException.class, () -> {
+			SerialBatch.extract(cars, DEFAULT_TEXT, new String[2], new BitSet());
+		});
+	}
+}